@@ -18,6 +18,7 @@ public class CalculatorGUI extends JFrame implements ActionListener {
     private JPanel painelPrincipal;
     private JTabbedPane abas;
     private JTextArea lispArea;
+    private LazyTreeExpander expansor;
 
     private final String[] botoes = {
             " ", " ", " ", "Conj", "C",
@@ -42,6 +43,7 @@ public class CalculatorGUI extends JFrame implements ActionListener {
         // Árvore Swing
         arvoreExecucao = new JTree(new DefaultMutableTreeNode("Nenhuma expressão avaliada"));
         scrollArvore = new JScrollPane(arvoreExecucao);
+        expansor = new LazyTreeExpander(arvoreExecucao, scrollArvore.getViewport());
         abas.add("Árvore", scrollArvore);
 
         // Aba LISP (texto)
@@ -180,10 +182,8 @@ public class CalculatorGUI extends JFrame implements ActionListener {
                 DefaultMutableTreeNode raiz = parser.getExecutionTree();
                 arvoreExecucao.setModel(new DefaultTreeModel(raiz));
 
-                // Expande toda a árvore
-                for (int i = 0; i < arvoreExecucao.getRowCount(); i++) {
-                    arvoreExecucao.expandRow(i);
-                }
+                // Expande as linhas visíveis; o restante é expandido ao rolar até ele
+                expansor.expandVisibleRows();
 
                 // Também atualiza aba LISP
                 String lisp = parser.getLispTree();
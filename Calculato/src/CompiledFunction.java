@@ -0,0 +1,264 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Expressão de uma variável compilada em notação pós-fixa.
+// A avaliação não relê o texto nem repete a análise sintática, e com números
+// duais produz valor e derivada em uma única passada (diferenciação automática).
+public class CompiledFunction {
+    static final char CONST = 'c';
+    static final char VAR = 'x';
+    // Menos unário: desempilha o zero e o operando, como '-', mas calcula -b
+    static final char NEG = '~';
+    // Acima disso a expressão não é tratada como polinômio (coeficientes custam O(grau²))
+    public static final int MAX_DEGREE = 1000;
+
+    private final String variable;
+    private final char[] ops;
+    private final Complex[] constants;
+
+    CompiledFunction(String variable, List<Character> ops, List<Complex> constants) {
+        this.variable = variable;
+        this.ops = new char[ops.size()];
+        for (int k = 0; k < this.ops.length; k++) this.ops[k] = ops.get(k);
+        this.constants = constants.toArray(new Complex[0]);
+    }
+
+    public String getVariable() { return variable; }
+
+    public Complex evaluate(Complex at) {
+        Complex[] stack = new Complex[ops.length];
+        int top = 0;
+        for (int k = 0; k < ops.length; k++) {
+            char op = ops[k];
+            switch (op) {
+                case CONST: stack[top++] = constants[k]; break;
+                case VAR: stack[top++] = at; break;
+                case '√': stack[top - 1] = stack[top - 1].pow(0.5); break;
+                default: {
+                    Complex b = stack[--top];
+                    Complex a = stack[top - 1];
+                    stack[top - 1] = apply(op, a, b);
+                }
+            }
+        }
+        return stack[0];
+    }
+
+    public DualComplex evaluateWithDerivative(Complex at) {
+        DualComplex[] stack = new DualComplex[ops.length];
+        DualComplex x = DualComplex.variable(at);
+        int top = 0;
+        for (int k = 0; k < ops.length; k++) {
+            char op = ops[k];
+            switch (op) {
+                case CONST: stack[top++] = DualComplex.constant(constants[k]); break;
+                case VAR: stack[top++] = x; break;
+                case '√': stack[top - 1] = stack[top - 1].sqrt(); break;
+                default: {
+                    DualComplex b = stack[--top];
+                    DualComplex a = stack[top - 1];
+                    stack[top - 1] = apply(op, a, b);
+                }
+            }
+        }
+        return stack[0];
+    }
+
+    public Complex derivative(Complex at) {
+        return evaluateWithDerivative(at).getDerivative();
+    }
+
+    private static Complex apply(char op, Complex a, Complex b) {
+        switch (op) {
+            case '+': return a.plus(b);
+            case '-': return a.minus(b);
+            case NEG: return b.scale(-1);
+            case '*': return a.times(b);
+            case '/': return a.divide(b);
+            case '^':
+                if (b.getImag() != 0) throw new IllegalArgumentException("Expoente da potência deve ser real.");
+                return a.pow(b.getReal());
+            default: throw new IllegalStateException("Operação desconhecida: " + op);
+        }
+    }
+
+    private static DualComplex apply(char op, DualComplex a, DualComplex b) {
+        switch (op) {
+            case '+': return a.plus(b);
+            case '-': return a.minus(b);
+            case NEG: return b.negate();
+            case '*': return a.times(b);
+            case '/': return a.divide(b);
+            case '^': return a.pow(b);
+            default: throw new IllegalStateException("Operação desconhecida: " + op);
+        }
+    }
+
+    // Limite superior do grau se a expressão for um polinômio na variável, -1 caso contrário
+    // (inclusive quando o grau passa de MAX_DEGREE).
+    public int polynomialDegree() {
+        int[] stack = new int[ops.length];
+        int top = 0;
+        for (int k = 0; k < ops.length; k++) {
+            char op = ops[k];
+            if (op == CONST) { stack[top++] = 0; continue; }
+            if (op == VAR) { stack[top++] = 1; continue; }
+            if (op == '√') {
+                if (stack[top - 1] != 0) return -1;
+                continue;
+            }
+            int b = stack[--top];
+            int a = stack[top - 1];
+            long d;
+            switch (op) {
+                case '+': case '-': case NEG: d = Math.max(a, b); break;
+                case '*': d = (long) a + b; break;
+                case '/': {
+                    // Divisor constante e não nulo; x/0 não é um polinômio
+                    if (b != 0) return -1;
+                    Complex divisor = constantAt(k - 1);
+                    if (divisor == null || isZero(divisor)) return -1;
+                    d = a;
+                    break;
+                }
+                case '^': {
+                    if (b != 0) return -1;
+                    // O expoente é constante: basta avaliá-lo
+                    Complex e = constantAt(k - 1);
+                    if (e == null || e.getImag() != 0) return -1;
+                    // Base constante: qualquer expoente real dá uma constante
+                    if (a == 0) { d = 0; break; }
+                    double n = e.getReal();
+                    if (n < 0 || n != Math.rint(n) || n > MAX_DEGREE) return -1;
+                    d = (long) a * (long) n;
+                    break;
+                }
+                default: return -1;
+            }
+            if (d > MAX_DEGREE) return -1;
+            stack[top - 1] = (int) d;
+        }
+        return stack[0];
+    }
+
+    // Valor da subexpressão constante que termina na instrução end; null se ela depende
+    // da variável ou não pode ser avaliada (divisão por zero, expoente complexo).
+    private Complex constantAt(int end) {
+        int need = 1;
+        int start = end;
+        while (need > 0) {
+            char op = ops[start];
+            if (op == CONST || op == VAR) need--;
+            else if (op != '√') need++;
+            if (need > 0) start--;
+        }
+        Complex[] stack = new Complex[end - start + 1];
+        int top = 0;
+        try {
+            for (int k = start; k <= end; k++) {
+                char op = ops[k];
+                if (op == CONST) stack[top++] = constants[k];
+                else if (op == VAR) return null;
+                else if (op == '√') stack[top - 1] = stack[top - 1].pow(0.5);
+                else {
+                    Complex b = stack[--top];
+                    stack[top - 1] = apply(op, stack[top - 1], b);
+                }
+            }
+        } catch (ArithmeticException | IllegalArgumentException ex) {
+            return null;
+        }
+        return stack[0];
+    }
+
+    // Coeficientes c0..cn do polinômio, calculados simbolicamente sobre o programa
+    // pós-fixo (sem amostragem, então não dependem de onde estão as raízes).
+    // Só coeficientes de maior grau exatamente nulos são descartados.
+    public List<Complex> polynomialCoefficients() {
+        if (polynomialDegree() < 0) {
+            throw new IllegalArgumentException("A expressão não é um polinômio em " + variable
+                    + " (ou tem grau acima de " + MAX_DEGREE + ").");
+        }
+
+        Complex[][] stack = new Complex[ops.length][];
+        int top = 0;
+        for (int k = 0; k < ops.length; k++) {
+            char op = ops[k];
+            switch (op) {
+                case CONST: stack[top++] = new Complex[]{constants[k]}; break;
+                case VAR: stack[top++] = new Complex[]{new Complex(0, 0), new Complex(1, 0)}; break;
+                case '√': stack[top - 1] = new Complex[]{stack[top - 1][0].pow(0.5)}; break;
+                default: {
+                    Complex[] b = stack[--top];
+                    Complex[] a = stack[top - 1];
+                    stack[top - 1] = applyPolynomial(op, a, b);
+                }
+            }
+        }
+
+        List<Complex> coefficients = new ArrayList<>();
+        for (Complex c : stack[0]) coefficients.add(c);
+        while (coefficients.size() > 1 && isZero(coefficients.get(coefficients.size() - 1))) {
+            coefficients.remove(coefficients.size() - 1);
+        }
+        return coefficients;
+    }
+
+    // polynomialDegree já garantiu: divisor e expoente constantes e reais; se a base
+    // não é constante, o expoente é inteiro >= 0
+    private static Complex[] applyPolynomial(char op, Complex[] a, Complex[] b) {
+        switch (op) {
+            case '+': case '-': {
+                Complex[] r = new Complex[Math.max(a.length, b.length)];
+                for (int k = 0; k < r.length; k++) {
+                    Complex x = k < a.length ? a[k] : new Complex(0, 0);
+                    Complex y = k < b.length ? b[k] : new Complex(0, 0);
+                    r[k] = op == '+' ? x.plus(y) : x.minus(y);
+                }
+                return r;
+            }
+            case NEG: {
+                Complex[] r = new Complex[b.length];
+                for (int k = 0; k < r.length; k++) r[k] = b[k].scale(-1);
+                return r;
+            }
+            case '*': return multiply(a, b);
+            case '/': {
+                Complex[] r = new Complex[a.length];
+                for (int k = 0; k < r.length; k++) r[k] = a[k].divide(b[0]);
+                return r;
+            }
+            case '^': {
+                // Base constante: potência real, como em apply
+                if (a.length == 1) return new Complex[]{a[0].pow(b[0].getReal())};
+                int n = (int) b[0].getReal();
+                // Exponenciação por quadrados
+                Complex[] result = {new Complex(1, 0)};
+                Complex[] base = a;
+                while (n > 0) {
+                    if ((n & 1) == 1) result = multiply(result, base);
+                    n >>= 1;
+                    if (n > 0) base = multiply(base, base);
+                }
+                return result;
+            }
+            default: throw new IllegalStateException("Operação desconhecida: " + op);
+        }
+    }
+
+    private static Complex[] multiply(Complex[] a, Complex[] b) {
+        Complex[] r = new Complex[a.length + b.length - 1];
+        Arrays.fill(r, new Complex(0, 0));
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < b.length; j++) {
+                r[i + j] = r[i + j].plus(a[i].times(b[j]));
+            }
+        }
+        return r;
+    }
+
+    private static boolean isZero(Complex c) {
+        return c.getReal() == 0 && c.getImag() == 0;
+    }
+}
@@ -45,6 +45,18 @@ public class Complex {
         return new Complex(real, -imag);
     }
 
+    public double abs() {
+        return Math.hypot(real, imag);
+    }
+
+    // Logaritmo principal: ln|z| + i·arg(z)
+    public Complex log() {
+        if (real == 0 && imag == 0) {
+            throw new ArithmeticException("Logaritmo de zero no número complexo.");
+        }
+        return new Complex(Math.log(abs()), Math.atan2(imag, real));
+    }
+
 
     public Complex pow(double exponent) {
         if (real == 0 && imag == 0 && exponent > 0) return new Complex(0, 0);
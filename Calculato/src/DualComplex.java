@@ -0,0 +1,82 @@
+public class DualComplex {
+    private static final Complex ZERO = new Complex(0, 0);
+
+    private final Complex value;
+    private final Complex derivative;
+
+    public DualComplex(Complex value, Complex derivative) {
+        this.value = value;
+        this.derivative = derivative;
+    }
+
+    public static DualComplex constant(Complex value) {
+        return new DualComplex(value, ZERO);
+    }
+
+    public static DualComplex variable(Complex value) {
+        return new DualComplex(value, new Complex(1, 0));
+    }
+
+    public Complex getValue() { return value; }
+    public Complex getDerivative() { return derivative; }
+
+
+    public DualComplex plus(DualComplex b) {
+        return new DualComplex(value.plus(b.value), derivative.plus(b.derivative));
+    }
+
+    public DualComplex minus(DualComplex b) {
+        return new DualComplex(value.minus(b.value), derivative.minus(b.derivative));
+    }
+
+    public DualComplex negate() {
+        return new DualComplex(value.scale(-1), derivative.scale(-1));
+    }
+
+    // (uv)' = u'v + uv'
+    public DualComplex times(DualComplex b) {
+        Complex d = derivative.times(b.value).plus(value.times(b.derivative));
+        return new DualComplex(value.times(b.value), d);
+    }
+
+    // (u/v)' = (u'v - uv') / v²
+    public DualComplex divide(DualComplex b) {
+        Complex q = value.divide(b.value);
+        Complex d = derivative.minus(q.times(b.derivative)).divide(b.value);
+        return new DualComplex(q, d);
+    }
+
+    // Mesma restrição do parser: o valor do expoente deve ser real.
+    public DualComplex pow(DualComplex exponent) {
+        if (exponent.value.getImag() != 0) {
+            throw new IllegalArgumentException("Expoente da potência deve ser real.");
+        }
+        double n = exponent.value.getReal();
+        Complex result = value.pow(n);
+
+        if (isZero(exponent.derivative)) {
+            if (isZero(derivative)) return constant(result);
+            // (u^n)' = n·u^(n-1)·u'
+            Complex d = value.pow(n - 1).scale(n).times(derivative);
+            return new DualComplex(result, d);
+        }
+
+        // (u^v)' = u^v·(v'·ln u + v·u'/u)
+        Complex d = exponent.derivative.times(value.log())
+                .plus(derivative.divide(value).scale(n));
+        return new DualComplex(result, result.times(d));
+    }
+
+    public DualComplex sqrt() {
+        return pow(constant(new Complex(0.5, 0)));
+    }
+
+    private static boolean isZero(Complex c) {
+        return c.getReal() == 0 && c.getImag() == 0;
+    }
+
+    @Override
+    public String toString() {
+        return value + " [d: " + derivative + "]";
+    }
+}
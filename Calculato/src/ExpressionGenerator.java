@@ -0,0 +1,64 @@
+import java.util.HashMap;
+import java.util.Map;
+
+// Gera famílias de expressões patológicas com tamanho controlado.
+public class ExpressionGenerator {
+    private static final char[] OPERATORS = {'+', '-', '*', '+', '/'};
+
+    // ((((x+1)+1)+1)...): profundidade de parênteses igual a depth
+    public static String nested(int depth) {
+        StringBuilder sb = new StringBuilder(depth * 4 + 1);
+        for (int k = 0; k < depth; k++) sb.append('(');
+        sb.append('x');
+        for (int k = 0; k < depth; k++) sb.append("+1)");
+        return sb.toString();
+    }
+
+    // -√-√...x: cadeia de operadores prefixos com a quantidade de pares indicada
+    public static String prefixChain(int pairs) {
+        StringBuilder sb = new StringBuilder(pairs * 2 + 1);
+        for (int k = 0; k < pairs; k++) sb.append("-√");
+        sb.append('x');
+        return sb.toString();
+    }
+
+    // x+2*x-3/x...: cadeia plana com a quantidade de operandos indicada
+    public static String longChain(int operands) {
+        StringBuilder sb = new StringBuilder(operands * 4);
+        sb.append('x');
+        for (int k = 1; k < operands; k++) {
+            sb.append(OPERATORS[k % OPERATORS.length]);
+            sb.append(k % 2 == 0 ? "x" : String.valueOf(k % 9 + 1));
+        }
+        return sb.toString();
+    }
+
+    // va+vb*vc-...: uma variável distinta por operando
+    public static String manyVariables(int count) {
+        StringBuilder sb = new StringBuilder(count * 6);
+        for (int k = 0; k < count; k++) {
+            if (k > 0) sb.append(OPERATORS[k % OPERATORS.length]);
+            sb.append(variableName(k));
+        }
+        return sb.toString();
+    }
+
+    public static Map<String, Complex> variablesFor(int count) {
+        Map<String, Complex> vars = new HashMap<>();
+        vars.put("x", new Complex(1.5, 0.5));
+        for (int k = 0; k < count; k++) {
+            vars.put(variableName(k), new Complex(k % 7 + 1, k % 3));
+        }
+        return vars;
+    }
+
+    // Só letras, com prefixo "v" para nunca colidir com "i" nem com "x"
+    public static String variableName(int index) {
+        StringBuilder sb = new StringBuilder();
+        do {
+            sb.append((char) ('a' + index % 26));
+            index /= 26;
+        } while (index > 0);
+        return "v" + sb.reverse();
+    }
+}
@@ -1,6 +1,11 @@
 import javax.swing.tree.DefaultMutableTreeNode;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 
 public class ExpressionParser {
 
@@ -8,16 +13,30 @@ public class ExpressionParser {
     private int position;
     private final Map<String, Complex> variables;
     private final Map<String, Complex> allVariables;
+    private final int[] closing;
+
+    // Menos unário na pilha de operadores (distinto do '-' binário)
+    private static final char UNARY_MINUS = '~';
 
     private Node root;
     private Complex lastResult;
+    // Variável livre aceita durante a análise mesmo sem valor (usada por compile)
+    private String freeVariable;
 
     // AST interno
     private static class Node {
         String value;
         Node left, right;
+        // Valor de números e literais, resolvido na análise; nulo para variáveis e operadores
+        Complex constant;
+        // Menos unário, guardado como (- 0 x) mas avaliado como x·(-1)
+        boolean negation;
 
         Node(String value) { this.value = value; }
+        Node(String value, Complex constant) {
+            this.value = value;
+            this.constant = constant;
+        }
         Node(String value, Node left, Node right) {
             this.value = value;
             this.left = left;
@@ -33,6 +52,22 @@ public class ExpressionParser {
 
         this.allVariables = new HashMap<>(this.variables);
         this.allVariables.put("i", new Complex(0, 1));
+
+        this.closing = matchParentheses(this.expression);
+    }
+
+    // Posição do ')' correspondente a cada '(' (ou -1), calculada uma única vez
+    // para que cada nível de parênteses não precise reescanear o resto da expressão.
+    private static int[] matchParentheses(String expr) {
+        int[] match = new int[expr.length()];
+        Arrays.fill(match, -1);
+        Deque<Integer> open = new ArrayDeque<>();
+        for (int k = 0; k < expr.length(); k++) {
+            char c = expr.charAt(k);
+            if (c == '(') open.push(k);
+            else if (c == ')' && !open.isEmpty()) match[open.pop()] = k;
+        }
+        return match;
     }
 
     private String preprocess(String expr) {
@@ -54,98 +89,197 @@ public class ExpressionParser {
                 (Character.isLetter(c1) && (Character.isDigit(c2) || c2 == '('));
     }
 
+    // Analisa primeiro e só então avalia a AST; em caso de erro não fica AST parcial.
     public Complex evaluate() {
         root = null;
-        position = 0;
-        lastResult = evaluateAdditionSubtraction();
-
-        if (position != expression.length()) {
-            throw new IllegalArgumentException("Erro ao analisar expressão próximo de: " + expression.substring(position));
-        }
+        lastResult = null;
+        Node tree = parse(null);
+        lastResult = evaluateTree(tree);
+        root = tree;
         return lastResult;
     }
 
-    private Node makeNode(String value, Node left, Node right) {
-        return new Node(value, left, right);
+    // Ganchos para a suíte de estresse medir análise e avaliação em separado
+    void parseOnly() {
+        parse(null);
     }
 
-    private Complex evaluateAdditionSubtraction() {
-        Node leftNode = null;
-        Complex result = evaluateMultiplicationDivision();
-        leftNode = root;
-
-        while (position < expression.length()) {
-            char op = expression.charAt(position);
-            if (op == '+' || op == '-') {
-                position++;
-                Complex right = evaluateMultiplicationDivision();
-                Node rightNode = root;
+    Complex evaluateParsedTree() {
+        if (root == null) throw new IllegalStateException("Nenhuma expressão analisada.");
+        return evaluateTree(root);
+    }
 
-                root = makeNode(String.valueOf(op), leftNode, rightNode);
+    // Análise por precedência de operadores com pilhas explícitas: a profundidade de
+    // parênteses e de operadores prefixos não consome a pilha de chamadas.
+    // O menos unário e a raiz ligam mais forte que '^', e todos os binários associam
+    // à esquerda, como na descida recursiva original.
+    private Node parse(String free) {
+        position = 0;
+        freeVariable = free;
+
+        Deque<Node> operands = new ArrayDeque<>();
+        Deque<Character> operators = new ArrayDeque<>();
+        int openGroups = 0;
+        boolean expectOperand = true;
+        boolean minusAllowed = true;
+
+        while (true) {
+            if (expectOperand) {
+                char c = position < expression.length() ? expression.charAt(position) : 0;
+                if (c == '-' && minusAllowed) {
+                    operators.push(UNARY_MINUS);
+                    position++;
+                    minusAllowed = false;
+                } else if (c == '√') {
+                    operators.push('√');
+                    position++;
+                    minusAllowed = true;
+                } else if (c == '(') {
+                    int end = closing[position];
+                    if (end == -1) throw new IllegalArgumentException("Parênteses não fechados.");
+                    Node literal = parseLiteral(position + 1, end);
+                    if (literal != null) {
+                        operands.push(literal);
+                        position = end + 1;
+                        expectOperand = false;
+                    } else {
+                        operators.push('(');
+                        openGroups++;
+                        position++;
+                        minusAllowed = true;
+                    }
+                } else {
+                    operands.push(parseOperand());
+                    expectOperand = false;
+                }
+                continue;
+            }
 
-                if (op == '+') result = result.plus(right);
-                else result = result.minus(right);
+            if (position < expression.length()) {
+                char c = expression.charAt(position);
+                if (c == '+' || c == '-' || c == '*' || c == '/' || c == '^') {
+                    while (!operators.isEmpty() && operators.peek() != '('
+                            && precedence(operators.peek()) >= precedence(c)) {
+                        reduce(operators, operands);
+                    }
+                    operators.push(c);
+                    position++;
+                    expectOperand = true;
+                    minusAllowed = true;
+                    continue;
+                }
+                if (c == ')' && openGroups > 0) {
+                    while (operators.peek() != '(') reduce(operators, operands);
+                    operators.pop();
+                    openGroups--;
+                    position++;
+                    continue;
+                }
+            }
+            if (openGroups > 0) throw new IllegalArgumentException("Parênteses não fechados.");
+            break;
+        }
 
-                leftNode = root;
-            } else break;
+        while (!operators.isEmpty()) reduce(operators, operands);
+        if (position != expression.length()) {
+            throw new IllegalArgumentException("Erro ao analisar expressão próximo de: " + expression.substring(position));
         }
-        return result;
+        return operands.pop();
     }
 
-    private Complex evaluateMultiplicationDivision() {
-        Node leftNode = null;
-        Complex result = evaluatePower();
-        leftNode = root;
-
-        while (position < expression.length()) {
-            char op = expression.charAt(position);
-            if (op == '*' || op == '/') {
-                position++;
-                Complex right = evaluatePower();
-                Node rightNode = root;
-
-                root = makeNode(String.valueOf(op), leftNode, rightNode);
-
-                if (op == '*') result = result.times(right);
-                else result = result.divide(right);
-
-                leftNode = root;
-            } else break;
+    private static int precedence(char op) {
+        switch (op) {
+            case '+': case '-': return 1;
+            case '*': case '/': return 2;
+            case '^': return 3;
+            default: return 4;
         }
-        return result;
     }
 
-    private Complex evaluatePower() {
-        Complex result = evaluatePrimary();
-        Node baseNode = root;
+    private void reduce(Deque<Character> operators, Deque<Node> operands) {
+        char op = operators.pop();
+        Node right = operands.pop();
+        if (op == UNARY_MINUS) {
+            Node negation = makeNode("-", new Node("0", new Complex(0, 0)), right);
+            negation.negation = true;
+            operands.push(negation);
+        } else if (op == '√') {
+            operands.push(new Node("√", right, null));
+        } else {
+            Node left = operands.pop();
+            operands.push(makeNode(String.valueOf(op), left, right));
+        }
+    }
 
-        while (position < expression.length() && expression.charAt(position) == '^') {
-            position++;
-            Complex right = evaluatePrimary();
-            Node expNode = root;
+    private Complex evaluateTree(Node tree) {
+        Deque<Complex> values = new ArrayDeque<>();
+        for (Node n : postOrder(tree)) {
+            if (n.left == null && n.right == null) {
+                values.push(n.constant != null ? n.constant : allVariables.get(n.value));
+                continue;
+            }
+            if (n.value.equals("√")) {
+                values.push(values.pop().pow(0.5));
+                continue;
+            }
+            Complex right = values.pop();
+            Complex left = values.pop();
+            switch (n.value.charAt(0)) {
+                case '+': values.push(left.plus(right)); break;
+                case '-': values.push(n.negation ? right.scale(-1) : left.minus(right)); break;
+                case '*': values.push(left.times(right)); break;
+                case '/': values.push(left.divide(right)); break;
+                default:
+                    if (right.getImag() != 0) throw new IllegalArgumentException("Expoente da potência deve ser real.");
+                    values.push(left.pow(right.getReal()));
+            }
+        }
+        return values.pop();
+    }
 
-            if (right.getImag() != 0) throw new IllegalArgumentException("Expoente da potência deve ser real.");
-            result = result.pow(right.getReal());
-            root = makeNode("^", baseNode, expNode);
-            baseNode = root;
+    // Nós em pós-ordem, sem recursão
+    private static List<Node> postOrder(Node tree) {
+        List<Node> order = new ArrayList<>();
+        Deque<Node> pending = new ArrayDeque<>();
+        Node last = null;
+        Node n = tree;
+        while (n != null || !pending.isEmpty()) {
+            if (n != null) {
+                pending.push(n);
+                n = n.left;
+                continue;
+            }
+            Node peek = pending.peek();
+            if (peek.right != null && last != peek.right) {
+                n = peek.right;
+                continue;
+            }
+            pending.pop();
+            last = peek;
+            order.add(peek);
         }
-        return result;
+        return order;
     }
 
-    private Complex evaluatePrimary() {
-        return evaluateUnitary();
+    private Node makeNode(String value, Node left, Node right) {
+        return new Node(value, left, right);
     }
 
-    private Complex evaluateUnitary() {
-        boolean isNegative = false;
-        if (position < expression.length() && expression.charAt(position) == '-') {
-            isNegative = true;
-            position++;
+    // Só um grupo sem parênteses internos pode ser um literal como (3+2i)
+    private Node parseLiteral(int start, int end) {
+        int inner = expression.indexOf('(', start);
+        if (inner != -1 && inner < end) return null;
+        String content = expression.substring(start, end);
+        try {
+            return new Node(content, Complex.parse(content));
+        } catch (Exception ignored) {
+            return null;
         }
+    }
 
-        Complex result;
-
-        // Bloco modificado: Apenas processa variáveis, ignorando funções
+    // Variável ou número
+    private Node parseOperand() {
+        // Apenas variáveis, sem funções
         if (position < expression.length() && Character.isLetter(expression.charAt(position))) {
             int start = position;
             // Lê o nome completo (ex: "x", "total", "var1")
@@ -154,77 +288,19 @@ public class ExpressionParser {
             }
             String name = expression.substring(start, position);
 
-            // A lógica de verificar '(' e switch case foi removida.
-            // Agora tratamos tudo como variável.
-            if (!allVariables.containsKey(name)) {
+            if (!allVariables.containsKey(name) && !name.equals(freeVariable)) {
                 throw new IllegalArgumentException("Variável desconhecida: " + name);
             }
-            result = allVariables.get(name);
-            root = new Node(name);
+            return new Node(name);
         }
-        // O resto continua igual (Raiz quadrada)
-        else if (expression.substring(position).startsWith("√")) {
-            position++;
-            result = evaluateUnitary();
-            Node child = root;
-            result = result.pow(0.5);
-            root = new Node("√", child, null);
-        }
-        // O resto continua igual (Parênteses)
-        else if (position < expression.length() && expression.charAt(position) == '(') {
-            int save = position;
-            int start = position + 1;
-            int balance = 1;
-            int end = -1;
-            for (int i = start; i < expression.length(); i++) {
-                char c = expression.charAt(i);
-                if (c == '(') balance++;
-                if (c == ')') balance--;
-                if (balance == 0) { end = i; break; }
-            }
-            if (end != -1) {
-                String content = expression.substring(start, end);
-                try {
-                    Complex lit = Complex.parse(content);
-                    position = end + 1;
-                    result = lit;
-                    root = new Node(content);
-                } catch (Exception ex) {
-                    position = save;
-                    position++;
-                    result = evaluateAdditionSubtraction();
-                    if (position < expression.length() && expression.charAt(position) == ')') position++;
-                    else throw new IllegalArgumentException("Parênteses não fechados.");
-                }
-            } else {
-                throw new IllegalArgumentException("Parênteses não fechados.");
-            }
-        }
-        // O resto continua igual (Números)
-        else if (position < expression.length() && (Character.isDigit(expression.charAt(position)) || expression.charAt(position) == '.')) {
+        if (position < expression.length() && (Character.isDigit(expression.charAt(position)) || expression.charAt(position) == '.')) {
             int start = position;
             while (position < expression.length() &&
                     (Character.isDigit(expression.charAt(position)) || expression.charAt(position) == '.')) position++;
             String num = expression.substring(start, position);
-            if (num.isEmpty()) throw new IllegalArgumentException("Número esperado.");
-            result = new Complex(Double.parseDouble(num), 0);
-            root = new Node(num);
-        }
-        // O resto continua igual (Unidade imaginária i)
-        else if (position < expression.length() && (expression.charAt(position) == 'i' || expression.charAt(position) == 'I')) {
-            position++;
-            result = new Complex(0, 1);
-            root = new Node("i");
-        }
-        else {
-            throw new IllegalArgumentException("Operando esperado em posição " + position);
+            return new Node(num, new Complex(Double.parseDouble(num), 0));
         }
-
-        if (isNegative) {
-            result = result.scale(-1);
-            root = makeNode("-", new Node("0"), root);
-        }
-        return result;
+        throw new IllegalArgumentException("Operando esperado em posição " + position);
     }
 
     public DefaultMutableTreeNode getExecutionTree() {
@@ -235,38 +311,92 @@ public class ExpressionParser {
         return top;
     }
 
+    // Pós-ordem: cada nó recebe os filhos antes de ser ligado ao pai,
+    // pois DefaultMutableTreeNode percorre os ancestrais a cada inserção.
     private DefaultMutableTreeNode buildSwingTree(Node n) {
         if (n == null) return new DefaultMutableTreeNode("vazio");
-        String label = n.value;
+        Deque<DefaultMutableTreeNode> built = new ArrayDeque<>();
+        for (Node current : postOrder(n)) {
+            DefaultMutableTreeNode treeNode = new DefaultMutableTreeNode(swingLabel(current));
+            DefaultMutableTreeNode right = current.right != null ? built.pop() : null;
+            if (current.left != null) treeNode.add(built.pop());
+            if (right != null) treeNode.add(right);
+            built.push(treeNode);
+        }
+        return built.pop();
+    }
+
+    private String swingLabel(Node n) {
         if (variables != null && variables.containsKey(n.value)) {
             Complex val = variables.get(n.value);
-            label = n.value + " = " + val.toString();
-        } else {
-            try {
-                Complex c = Complex.parse(n.value);
-                label = c.toString();
-            } catch (Exception ignored) { }
+            return n.value + " = " + val.toString();
+        }
+        // Números e literais já foram convertidos na análise, e operadores nunca são
+        // números: só os demais passam por Complex.parse, cuja exceção custa caro
+        if (n.constant != null) return n.constant.toString();
+        if (n.left != null || n.right != null) return n.value;
+        try {
+            return Complex.parse(n.value).toString();
+        } catch (Exception ignored) {
+            return n.value;
         }
-        DefaultMutableTreeNode treeNode = new DefaultMutableTreeNode(label);
-        if (n.left != null) treeNode.add(buildSwingTree(n.left));
-        if (n.right != null) treeNode.add(buildSwingTree(n.right));
-        return treeNode;
     }
 
     public String getLispTree() {
         if (root == null) return "";
-        return buildLisp(root);
+        StringBuilder out = new StringBuilder();
+        buildLisp(root, out);
+        return out.toString();
     }
 
-    private String buildLisp(Node n) {
-        if (n == null) return "";
-        if (n.left == null && n.right == null) {
-            return n.value;
+    // Pilha explícita de nós e trechos de texto pendentes, em vez de recursão com concatenação
+    private void buildLisp(Node n, StringBuilder out) {
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(n);
+        while (!pending.isEmpty()) {
+            Object item = pending.pop();
+            if (item instanceof String) {
+                out.append((String) item);
+                continue;
+            }
+            Node current = (Node) item;
+            if (current.left == null && current.right == null) {
+                out.append(current.value);
+                continue;
+            }
+            out.append('(').append(current.value).append(' ');
+            pending.push(")");
+            if (current.left != null && current.right == null) {
+                pending.push(current.left);
+                continue;
+            }
+            if (current.right != null) pending.push(current.right);
+            pending.push(" ");
+            if (current.left != null) pending.push(current.left);
         }
-        if (n.left != null && n.right == null) {
-            return "(" + n.value + " " + buildLisp(n.left) + ")";
+    }
+
+    // Compila a expressão em uma função da variável indicada; as demais variáveis viram
+    // constantes. Só analisa, sem avaliar: a variável não precisa ter valor nem ser
+    // um ponto do domínio.
+    public CompiledFunction compile(String variable) {
+        Node tree = parse(variable);
+
+        List<Character> ops = new ArrayList<>();
+        List<Complex> constants = new ArrayList<>();
+        for (Node n : postOrder(tree)) {
+            if (n.left != null || n.right != null) {
+                ops.add(n.negation ? CompiledFunction.NEG : n.value.charAt(0));
+                constants.add(null);
+            } else if (n.constant == null && n.value.equals(variable)) {
+                ops.add(CompiledFunction.VAR);
+                constants.add(null);
+            } else {
+                ops.add(CompiledFunction.CONST);
+                constants.add(n.constant != null ? n.constant : allVariables.get(n.value));
+            }
         }
-        return "(" + n.value + " " + buildLisp(n.left) + " " + buildLisp(n.right) + ")";
+        return new CompiledFunction(variable, ops, constants);
     }
 
     public boolean structurallyEquals(ExpressionParser other) {
@@ -274,9 +404,17 @@ public class ExpressionParser {
     }
 
     private boolean compareNodes(Node a, Node b) {
-        if (a == null && b == null) return true;
-        if (a == null || b == null) return false;
-        if (!a.value.equals(b.value)) return false;
-        return compareNodes(a.left, b.left) && compareNodes(a.right, b.right);
+        Deque<Node[]> pending = new ArrayDeque<>();
+        pending.push(new Node[]{a, b});
+        while (!pending.isEmpty()) {
+            Node[] pair = pending.pop();
+            Node x = pair[0], y = pair[1];
+            if (x == null && y == null) continue;
+            if (x == null || y == null) return false;
+            if (!x.value.equals(y.value)) return false;
+            pending.push(new Node[]{x.right, y.right});
+            pending.push(new Node[]{x.left, y.left});
+        }
+        return true;
     }
 }
@@ -0,0 +1,38 @@
+import javax.swing.JTree;
+import javax.swing.JViewport;
+import javax.swing.tree.TreePath;
+import java.awt.Rectangle;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+// Expande a árvore à medida que as linhas ficam visíveis, em vez de tudo de uma vez.
+// Cada expandRow do JTree custa O(profundidade), então expandir a árvore inteira é
+// quadrático em expressões profundas; aqui cada rolagem só paga pelas linhas na tela.
+// Nenhum nó fica de fora: o que aparece ao rolar é expandido. Um nó que o usuário
+// recolheu não é expandido de novo.
+public class LazyTreeExpander {
+    private final JTree tree;
+    private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public LazyTreeExpander(JTree tree, JViewport viewport) {
+        this.tree = tree;
+        viewport.addChangeListener(e -> expandVisibleRows());
+        tree.addPropertyChangeListener(JTree.TREE_MODEL_PROPERTY, e -> visited.clear());
+    }
+
+    public void expandVisibleRows() {
+        Rectangle visible = tree.getVisibleRect();
+        if (visible.isEmpty()) return;
+        int bottom = visible.y + visible.height;
+
+        // expandRow insere linhas logo abaixo, então o limite é recalculado a cada passo
+        int row = tree.getClosestRowForLocation(visible.x, visible.y);
+        for (; row >= 0 && row < tree.getRowCount(); row++) {
+            Rectangle bounds = tree.getRowBounds(row);
+            if (bounds == null || bounds.y >= bottom) break;
+            TreePath path = tree.getPathForRow(row);
+            if (visited.add(path.getLastPathComponent())) tree.expandRow(row);
+        }
+    }
+}
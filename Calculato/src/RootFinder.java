@@ -0,0 +1,145 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Busca de raízes sobre funções compiladas; a derivada vem da diferenciação automática.
+public class RootFinder {
+    public static final double DEFAULT_TOLERANCE = 1e-12;
+    public static final int DEFAULT_MAX_ITERATIONS = 500;
+
+    public static RootResult newton(CompiledFunction f, Complex start) {
+        return newton(f, start, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS);
+    }
+
+    public static RootResult newton(CompiledFunction f, Complex start, double tolerance, int maxIterations) {
+        long begin = System.nanoTime();
+        Complex z = start;
+        int iterations = 0;
+        boolean converged = false;
+
+        try {
+            while (iterations < maxIterations) {
+                DualComplex fz = f.evaluateWithDerivative(z);
+                if (fz.getValue().abs() == 0) { converged = true; break; }
+                if (fz.getDerivative().abs() == 0) break;
+
+                Complex step = fz.getValue().divide(fz.getDerivative());
+                z = z.minus(step);
+                iterations++;
+                if (!Double.isFinite(z.getReal()) || !Double.isFinite(z.getImag())) break;
+                if (step.abs() <= tolerance * (1 + z.abs())) { converged = true; break; }
+            }
+        } catch (ArithmeticException | IllegalArgumentException ex) {
+            // Ponto fora do domínio (divisão por zero, expoente complexo): a tentativa falha
+        }
+
+        List<Complex> roots = new ArrayList<>();
+        roots.add(z);
+        return new RootResult("Newton", roots, iterations, converged, System.nanoTime() - begin);
+    }
+
+    // Cada ponto de partida é independente, então são processados em paralelo.
+    public static List<RootResult> newtonMultiStart(CompiledFunction f, List<Complex> starts, double tolerance, int maxIterations) {
+        return starts.parallelStream()
+                .map(s -> newton(f, s, tolerance, maxIterations))
+                .collect(Collectors.toList());
+    }
+
+    // Pontos em um círculo, com fase deslocada para evitar simetrias do polinômio.
+    public static List<Complex> circleStarts(int count, double radius) {
+        List<Complex> starts = new ArrayList<>();
+        for (int k = 0; k < count; k++) {
+            double angle = 2 * Math.PI * k / count + 0.4;
+            starts.add(new Complex(radius * Math.cos(angle), radius * Math.sin(angle)));
+        }
+        return starts;
+    }
+
+    public static RootResult durandKerner(CompiledFunction f) {
+        return durandKerner(f, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS);
+    }
+
+    public static RootResult durandKerner(CompiledFunction f, double tolerance, int maxIterations) {
+        long begin = System.nanoTime();
+        List<Complex> coefficients = f.polynomialCoefficients();
+        int degree = coefficients.size() - 1;
+        Complex leading = coefficients.get(degree);
+
+        Complex[] z = new Complex[degree];
+        Complex seed = new Complex(0.4, 0.9);
+        double radius = rootRadius(coefficients);
+        for (int k = 0; k < degree; k++) {
+            z[k] = seed.pow(k).scale(radius);
+        }
+
+        int iterations = 0;
+        boolean converged = degree == 0;
+        try {
+            while (!converged && iterations < maxIterations) {
+                double largestStep = 0;
+                for (int k = 0; k < degree; k++) {
+                    Complex denominator = leading;
+                    for (int j = 0; j < degree; j++) {
+                        if (j != k) denominator = denominator.times(z[k].minus(z[j]));
+                    }
+                    Complex step = f.evaluate(z[k]).divide(denominator);
+                    z[k] = z[k].minus(step);
+                    largestStep = Math.max(largestStep, step.abs() / (1 + z[k].abs()));
+                }
+                iterations++;
+                if (largestStep <= tolerance) converged = true;
+            }
+        } catch (ArithmeticException | IllegalArgumentException ex) {
+            // Aproximações coincidentes ou ponto fora do domínio: a iteração não pode prosseguir
+        }
+
+        List<Complex> roots = new ArrayList<>();
+        for (Complex r : z) roots.add(r);
+        return new RootResult("Durand-Kerner", roots, iterations, converged, System.nanoTime() - begin);
+    }
+
+    // Executa Durand–Kerner e Newton com múltiplos pontos de partida sobre um polinômio.
+    // O resultado de Newton agrupa as raízes distintas encontradas e soma as iterações.
+    public static List<RootResult> polynomialRoots(CompiledFunction f) {
+        List<RootResult> results = new ArrayList<>();
+        results.add(durandKerner(f));
+
+        long begin = System.nanoTime();
+        List<Complex> coefficients = f.polynomialCoefficients();
+        int degree = coefficients.size() - 1;
+        List<RootResult> attempts = newtonMultiStart(f,
+                circleStarts(2 * degree, rootRadius(coefficients)), DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS);
+
+        List<Complex> distinct = new ArrayList<>();
+        int iterations = 0;
+        boolean converged = true;
+        for (RootResult attempt : attempts) {
+            iterations += attempt.getIterations();
+            if (!attempt.isConverged()) { converged = false; continue; }
+            Complex r = attempt.getRoots().get(0);
+            boolean seen = false;
+            for (Complex d : distinct) {
+                if (r.minus(d).abs() <= 1e-6 * (1 + d.abs())) { seen = true; break; }
+            }
+            if (!seen) distinct.add(r);
+        }
+        results.add(new RootResult("Newton (" + attempts.size() + " partidas)", distinct, iterations, converged,
+                System.nanoTime() - begin));
+        return results;
+    }
+
+    // Cota de Fujiwara: todas as raízes estão no disco
+    // |z| <= 2·max(|c_{n-1}/c_n|, |c_{n-2}/c_n|^(1/2), ..., |c_0/(2c_n)|^(1/n)).
+    // Acompanha a escala das raízes, ao contrário de 1 + max|c_k/c_n|.
+    private static double rootRadius(List<Complex> coefficients) {
+        int degree = coefficients.size() - 1;
+        double leading = coefficients.get(degree).abs();
+        double bound = 0;
+        for (int k = 1; k <= degree; k++) {
+            double ratio = coefficients.get(degree - k).abs() / leading;
+            if (k == degree) ratio /= 2;
+            bound = Math.max(bound, Math.pow(ratio, 1.0 / k));
+        }
+        return bound > 0 ? 2 * bound : 1;
+    }
+}
@@ -0,0 +1,225 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Verificação executável de CompiledFunction e RootFinder: derivadas contra
+// diferenças finitas, grau e coeficientes de polinômios conhecidos e raízes
+// (inclusive grandes e repetidas). Falha com código de saída 1.
+//
+// Uso: java RootFinderCheck
+public class RootFinderCheck {
+    private final List<String> failures = new ArrayList<>();
+    private int checks;
+
+    public static void main(String[] args) {
+        RootFinderCheck check = new RootFinderCheck();
+        check.derivatives();
+        check.degrees();
+        check.coefficients();
+        check.roots();
+        check.domain();
+        check.compilation();
+
+        if (check.failures.isEmpty()) {
+            System.out.println("OK (" + check.checks + " verificações)");
+        } else {
+            for (String f : check.failures) System.out.println("FALHA: " + f);
+            System.exit(1);
+        }
+    }
+
+    private static CompiledFunction compile(String expression) {
+        return new ExpressionParser(expression, null).compile("x");
+    }
+
+    private void check(boolean ok, String message) {
+        checks++;
+        if (!ok) failures.add(message);
+    }
+
+    private static boolean close(Complex a, Complex b, double tolerance) {
+        return a.minus(b).abs() <= tolerance * (1 + b.abs());
+    }
+
+    // Diferença central com passo real pequeno
+    private void derivatives() {
+        String[] expressions = {"x^3+2/x+√x", "(x+i)^2*x-3", "x^x", "-x^2+5", "√-x*(x-1)", "(3+2i)/(x*x+1)", "2^x"};
+        Complex[] points = {new Complex(2, 1), new Complex(0.7, -0.3), new Complex(1.5, 0)};
+        double h = 1e-6;
+        for (String e : expressions) {
+            CompiledFunction f = compile(e);
+            for (Complex z : points) {
+                if (e.equals("x^x") || e.equals("2^x")) z = new Complex(z.getReal(), 0);
+                Complex ad = f.derivative(z);
+                Complex fd = f.evaluate(z.plus(new Complex(h, 0)))
+                        .minus(f.evaluate(z.minus(new Complex(h, 0))))
+                        .scale(1 / (2 * h));
+                check(close(ad, fd, 1e-6), "derivada de " + e + " em " + z + ": " + ad + " != " + fd);
+                check(close(f.evaluateWithDerivative(z).getValue(), f.evaluate(z), 1e-12),
+                        "valor dual de " + e + " em " + z);
+            }
+        }
+    }
+
+    private void degrees() {
+        Map<String, Integer> expected = new HashMap<>();
+        expected.put("x^3-2x+1", 3);
+        expected.put("(x-1)^2*(x+2)", 3);
+        expected.put("(x-100)^10", 10);
+        expected.put("2x/4", 1);
+        expected.put("√4*x^2", 2);
+        expected.put("x^0", 0);
+        expected.put("1/x", -1);
+        expected.put("√x", -1);
+        expected.put("x^x", -1);
+        expected.put("x^2.5", -1);
+        expected.put("x^-1", -1);
+        expected.put("x^3000000000", -1);
+        expected.put("x^100000", -1);
+        expected.put("(x^1000)^1000", -1);
+        // Base constante: o expoente pode ser real, mas não complexo
+        expected.put("x+2^0.5", 1);
+        expected.put("x+2^i", -1);
+        expected.put("x/0+1", -1);
+        expected.put("x/(2-2)", -1);
+        expected.put("x/(1/0)", -1);
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            int degree = compile(entry.getKey()).polynomialDegree();
+            check(degree == entry.getValue(), "grau de " + entry.getKey() + ": " + degree + " != " + entry.getValue());
+        }
+    }
+
+    private void coefficients() {
+        expectCoefficients("(x-1)^2*(x+2)", 2, -3, 0, 1);
+        expectCoefficients("x^2-1000000000000", -1e12, 0, 1);
+        expectCoefficients("(x+1)^2-x^2", 1, 2);
+        expectCoefficients("2x/4", 0, 0.5);
+        // O menos unário liga ao operando antes de '^': -x^2 é (-x)^2
+        expectCoefficients("-x^2+5", 5, 0, 1);
+        expectCoefficients("x+2^0.5", Math.sqrt(2), 1);
+        expectCoefficients("x^2-2^1.5", -Math.pow(2, 1.5), 0, 1);
+        expectCoefficients("x^2*3^0.5+1", 1, 0, Math.sqrt(3));
+        expectCoefficients("10^1.9*x^3-1", -1, 0, 0, Math.pow(10, 1.9));
+        expectCoefficients("(x-100)^10", 1e20, -1e19, 4.5e17, -1.2e16, 2.1e14, -2.52e12, 2.1e10, -1.2e8, 4.5e5, -1e3, 1);
+    }
+
+    private void expectCoefficients(String expression, double... expected) {
+        List<Complex> actual = compile(expression).polynomialCoefficients();
+        boolean ok = actual.size() == expected.length;
+        for (int k = 0; ok && k < expected.length; k++) {
+            ok = close(actual.get(k), new Complex(expected[k], 0), 1e-12);
+        }
+        check(ok, "coeficientes de " + expression + ": " + actual);
+    }
+
+    private void roots() {
+        expectRoots("(x-1)^2*(x+2)", 1e-6, new Complex(1, 0), new Complex(1, 0), new Complex(-2, 0));
+        expectRoots("x^2-1000000000000", 1e-9, new Complex(1e6, 0), new Complex(-1e6, 0));
+        expectRoots("(x-100)^3*(x+2)", 1e-4, new Complex(100, 0), new Complex(100, 0), new Complex(100, 0), new Complex(-2, 0));
+        expectRoots("x^2+1", 1e-9, new Complex(0, 1), new Complex(0, -1));
+        Complex[] tens = new Complex[10];
+        for (int k = 0; k < tens.length; k++) tens[k] = new Complex(100, 0);
+        expectRoots("(x-100)^10", 1e-2, tens);
+
+        // Coeficiente líder vindo de potência com expoente real
+        double radius = Math.pow(10, -1.9 / 3);
+        Complex[] cubic = new Complex[3];
+        for (int k = 0; k < cubic.length; k++) {
+            cubic[k] = new Complex(radius * Math.cos(2 * Math.PI * k / 3), radius * Math.sin(2 * Math.PI * k / 3));
+        }
+        expectRoots("10^1.9*x^3-1", 1e-9, cubic);
+        double a = Math.pow(2, 2.9);
+        expectRoots("2^2.9*x^2+x-1", 1e-9,
+                new Complex((-1 + Math.sqrt(1 + 4 * a)) / (2 * a), 0),
+                new Complex((-1 - Math.sqrt(1 + 4 * a)) / (2 * a), 0));
+        expectRoots("x^2*3^0.5+1", 1e-9, new Complex(0, Math.pow(3, -0.25)), new Complex(0, -Math.pow(3, -0.25)));
+
+        // Divisor nulo: "não é polinômio", não uma exceção aritmética
+        String outcome = "nenhuma exceção";
+        try {
+            RootFinder.polynomialRoots(compile("x/0+1"));
+        } catch (IllegalArgumentException e) {
+            outcome = null;
+        } catch (RuntimeException e) {
+            outcome = e.toString();
+        }
+        check(outcome == null, "polynomialRoots em x/0+1: " + outcome);
+
+        // Sem raízes conhecidas em forma fechada: basta que f se anule
+        CompiledFunction f = compile("x^3-2x+(3+2i)");
+        for (RootResult r : RootFinder.polynomialRoots(f)) {
+            check(r.isConverged(), r.getMethod() + " não convergiu em x^3-2x+(3+2i)");
+            check(r.getRoots().size() == 3, r.getMethod() + " encontrou " + r.getRoots().size() + " raízes em x^3-2x+(3+2i)");
+            for (Complex z : r.getRoots()) {
+                check(f.evaluate(z).abs() < 1e-9, r.getMethod() + ": f(" + z + ") != 0");
+            }
+        }
+    }
+
+    // Durand–Kerner devolve todas as raízes com multiplicidade; Newton, as distintas.
+    private void expectRoots(String expression, double tolerance, Complex... expected) {
+        List<RootResult> results = RootFinder.polynomialRoots(compile(expression));
+
+        RootResult dk = results.get(0);
+        check(dk.isConverged(), "Durand-Kerner não convergiu em " + expression);
+        List<Complex> remaining = new ArrayList<>(dk.getRoots());
+        boolean all = remaining.size() == expected.length;
+        for (Complex e : expected) {
+            int match = -1;
+            for (int k = 0; k < remaining.size() && match < 0; k++) {
+                if (close(remaining.get(k), e, tolerance)) match = k;
+            }
+            if (match < 0) all = false;
+            else remaining.remove(match);
+        }
+        check(all, "Durand-Kerner em " + expression + ": " + dk.getRoots());
+
+        RootResult newton = results.get(1);
+        check(newton.isConverged(), "Newton não convergiu em " + expression);
+        for (Complex e : expected) {
+            boolean found = false;
+            for (Complex z : newton.getRoots()) found |= close(z, e, tolerance);
+            check(found, "Newton em " + expression + " não achou " + e + ": " + newton.getRoots());
+        }
+        for (Complex z : newton.getRoots()) {
+            boolean known = false;
+            for (Complex e : expected) known |= close(z, e, tolerance);
+            check(known, "Newton em " + expression + " achou raiz inesperada " + z);
+        }
+    }
+
+    // Pontos fora do domínio dão tentativas sem convergência, não exceções
+    private void domain() {
+        CompiledFunction f = compile("2^x-3");
+        List<RootResult> attempts = RootFinder.newtonMultiStart(f, RootFinder.circleStarts(4, 2), 1e-12, 100);
+        check(attempts.size() == 4, "newtonMultiStart perdeu resultados em 2^x-3");
+        RootResult real = RootFinder.newton(f, new Complex(1, 0));
+        check(real.isConverged() && close(real.getRoots().get(0), new Complex(Math.log(3) / Math.log(2), 0), 1e-12),
+                "Newton em 2^x-3 a partir de 1: " + real);
+
+        RootResult pole = RootFinder.newton(compile("1/x"), new Complex(0, 0));
+        check(!pole.isConverged(), "Newton em 1/x a partir do polo convergiu");
+    }
+
+    // compile só analisa: não depende do valor atual da variável nem de avaliação anterior
+    private void compilation() {
+        Map<String, Complex> vars = new HashMap<>();
+        vars.put("x", new Complex(0, 0));
+        RootResult r = RootFinder.newton(new ExpressionParser("1/x-2", vars).compile("x"), new Complex(0.4, 0));
+        check(r.isConverged() && close(r.getRoots().get(0), new Complex(0.5, 0), 1e-12), "1/x-2 com x=0: " + r);
+
+        vars.put("x", new Complex(5, 0));
+        ExpressionParser broken = new ExpressionParser("x+1)", vars);
+        boolean rejected = false;
+        try {
+            broken.evaluate();
+        } catch (IllegalArgumentException ignored) { }
+        try {
+            broken.compile("x");
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        check(rejected, "compile aceitou x+1) depois de falha na análise");
+    }
+}
@@ -0,0 +1,29 @@
+import java.util.List;
+
+public class RootResult {
+    private final String method;
+    private final List<Complex> roots;
+    private final int iterations;
+    private final boolean converged;
+    private final long elapsedNanos;
+
+    public RootResult(String method, List<Complex> roots, int iterations, boolean converged, long elapsedNanos) {
+        this.method = method;
+        this.roots = List.copyOf(roots);
+        this.iterations = iterations;
+        this.converged = converged;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getMethod() { return method; }
+    public List<Complex> getRoots() { return roots; }
+    public int getIterations() { return iterations; }
+    public boolean isConverged() { return converged; }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %s (%d iterações, %s, %.3f ms)",
+                method, roots, iterations, converged ? "convergiu" : "não convergiu", elapsedNanos / 1e6);
+    }
+}
@@ -0,0 +1,351 @@
+import javax.swing.JScrollPane;
+import javax.swing.JTree;
+import javax.swing.tree.DefaultTreeModel;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.function.IntFunction;
+
+// Mede tempo e memória alocada da análise, da avaliação da árvore, da função
+// compilada, do LISP, da comparação e da árvore Swing em tamanhos crescentes de cada família de expressões. Falha (código de saída 1)
+// se o crescimento ficar superlinear ou ultrapassar a linha de base gravada.
+//
+// Uso: java ScalabilityStressSuite [arquivo-de-base] [--update-baseline]
+public class ScalabilityStressSuite {
+    private static final int[] SIZES = {1000, 2000, 4000, 8000, 16000, 32000, 64000};
+    // O ajuste usa os tamanhos a partir deste índice, onde custos fixos já não dominam e
+    // a AST já não cabe no cache (a passagem pelo limite do cache dá um degrau de ~2x)
+    private static final int FIT_FROM = 3;
+
+    // Expoente de crescimento máximo (1 = linear, 2 = quadrático). O ruído de tempo é
+    // tratado com aquecimento, mais pontos no ajuste e novas medições, não com folga.
+    private static final double MAX_TIME_EXPONENT = 1.3;
+    private static final double MAX_MEMORY_EXPONENT = 1.25;
+    // Folga em relação à linha de base; tempo varia mais entre máquinas que alocação
+    private static final double TIME_TOLERANCE = 4.0;
+    private static final double MEMORY_TOLERANCE = 1.5;
+
+    private static final long MIN_SAMPLE_NANOS = 20_000_000L;
+    // Executa cada operação antes da série para que o JIT não distorça os tamanhos menores
+    private static final long WARMUP_NANOS = 300_000_000L;
+    // Séries reprovadas no tempo (crescimento ou linha de base) são medidas mais algumas
+    // vezes e vale a maioria das medições: uma série boa por acaso não basta para aprovar
+    private static final int TIME_RETRIES = 2;
+
+    private static final String[] OPERATIONS = {"parse", "evaluate", "compiled-evaluate", "lisp", "compare", "tree"};
+    // O tempo destas é dominado pela coleta de lixo (a árvore Swing aloca dezenas de MB
+    // no maior tamanho); só a alocação é verificada, e a árvore também pelas linhas expandidas
+    private static final List<String> ALLOCATION_ONLY = List.of("tree");
+    // Linhas expandidas no maior tamanho em relação ao menor: a expansão preguiçosa
+    // depende da janela, não da expressão
+    private static final double MAX_ROWS_RATIO = 1.5;
+
+    private static class Family {
+        final String name;
+        final IntFunction<String> generator;
+        final boolean usesVariables;
+
+        Family(String name, IntFunction<String> generator, boolean usesVariables) {
+            this.name = name;
+            this.generator = generator;
+            this.usesVariables = usesVariables;
+        }
+    }
+
+    private static class Fixture {
+        final String expression;
+        final Map<String, Complex> variables;
+        final ExpressionParser parser;
+        final ExpressionParser twin;
+        final CompiledFunction compiled;
+
+        Fixture(String expression, Map<String, Complex> variables) {
+            this.expression = expression;
+            this.variables = variables;
+            this.parser = new ExpressionParser(expression, variables);
+            this.parser.evaluate();
+            this.twin = new ExpressionParser(expression, variables);
+            this.twin.evaluate();
+            this.compiled = parser.compile("x");
+        }
+    }
+
+    private static class Measurement {
+        final double nanos;
+        final double bytes;
+
+        Measurement(double nanos, double bytes) {
+            this.nanos = nanos;
+            this.bytes = bytes;
+        }
+    }
+
+    private static final Family[] FAMILIES = {
+            new Family("nesting", ExpressionGenerator::nested, false),
+            new Family("prefix", ExpressionGenerator::prefixChain, false),
+            new Family("operands", ExpressionGenerator::longChain, false),
+            new Family("variables", ExpressionGenerator::manyVariables, true),
+    };
+
+    private final List<String> failures = new ArrayList<>();
+    private final Properties measured = new Properties();
+    private final Properties baseline = new Properties();
+    private int seriesCount;
+    private int retriedCount;
+
+    public static void main(String[] args) throws Exception {
+        String baselinePath = "stress-baseline.properties";
+        boolean update = false;
+        for (String arg : args) {
+            if (arg.equals("--update-baseline")) update = true;
+            else baselinePath = arg;
+        }
+
+        System.setProperty("java.awt.headless", "true");
+
+        // Pilha padrão de propósito: recursão proporcional ao tamanho deve falhar aqui
+        ScalabilityStressSuite suite = new ScalabilityStressSuite();
+        if (!update) suite.loadBaseline(baselinePath);
+        try {
+            suite.runAll();
+        } catch (Throwable t) {
+            // Estouro de pilha, falta de memória ou exceção nova no parser também reprovam
+            t.printStackTrace();
+            suite.failures.add("execução interrompida: " + t);
+        }
+
+        if (!update) suite.checkBaseline();
+
+        if (!suite.failures.isEmpty()) {
+            for (String f : suite.failures) System.out.println("FALHA: " + f);
+            // Uma execução reprovada nunca vira linha de base
+            if (update) System.out.println("Linha de base não gravada.");
+            System.exit(1);
+        }
+        if (update) {
+            suite.saveBaseline(baselinePath);
+            System.out.println("Linha de base gravada em " + baselinePath);
+            return;
+        }
+        System.out.println("OK");
+    }
+
+    private void runAll() {
+        for (Family family : FAMILIES) {
+            Fixture[] fixtures = new Fixture[SIZES.length];
+            for (int s = 0; s < SIZES.length; s++) {
+                int size = SIZES[s];
+                Map<String, Complex> vars = ExpressionGenerator.variablesFor(family.usesVariables ? size : 0);
+                fixtures[s] = new Fixture(family.generator.apply(size), vars);
+            }
+
+            for (String operation : OPERATIONS) {
+                String key = family.name + "." + operation;
+                boolean timed = !ALLOCATION_ONLY.contains(operation);
+                warmUp(operation, fixtures[fixtures.length - 1]);
+                Measurement[] series = measureSeries(operation, fixtures);
+                seriesCount++;
+                if (timed && timeRejected(key, series)) {
+                    retriedCount++;
+                    System.out.println(key + ": tempo reprovado, medindo mais " + TIME_RETRIES + " vezes");
+                    Measurement[] rejected = series;
+                    int passed = 0;
+                    for (int retry = 0; retry < TIME_RETRIES; retry++) {
+                        Measurement[] again = measureSeries(operation, fixtures);
+                        if (timeRejected(key, again)) continue;
+                        passed++;
+                        series = again;
+                    }
+                    if (2 * passed <= TIME_RETRIES) series = rejected;
+                }
+                for (int s = 0; s < SIZES.length; s++) {
+                    System.out.printf("%-10s %-17s n=%-6d %12.1f us %14.0f bytes%n",
+                            family.name, operation, SIZES[s], series[s].nanos / 1e3, series[s].bytes);
+                }
+                checkGrowth(key, series, timed);
+            }
+            checkTreeRows(family.name + ".tree", fixtures);
+        }
+        // Novas medições frequentes indicam máquina ruidosa ou custo no limite
+        System.out.printf("Séries medidas novamente: %d de %d%n", retriedCount, seriesCount);
+    }
+
+    private static void warmUp(String operation, Fixture f) {
+        long start = System.nanoTime();
+        do {
+            run(operation, f);
+        } while (System.nanoTime() - start < WARMUP_NANOS);
+    }
+
+    private static Measurement[] measureSeries(String operation, Fixture[] fixtures) {
+        Measurement[] series = new Measurement[fixtures.length];
+        for (int s = 0; s < fixtures.length; s++) series[s] = measure(operation, fixtures[s]);
+        return series;
+    }
+
+    private static void run(String operation, Fixture f) {
+        switch (operation) {
+            // Só a análise; "evaluate" mede a avaliação da AST que a GUI usa
+            case "parse": new ExpressionParser(f.expression, f.variables).parseOnly(); break;
+            case "evaluate": f.parser.evaluateParsedTree(); break;
+            case "compiled-evaluate": f.compiled.evaluate(new Complex(1.5, 0.5)); break;
+            case "lisp": f.parser.getLispTree(); break;
+            case "compare": f.parser.structurallyEquals(f.twin); break;
+            case "tree": showTree(f); break;
+            default: throw new IllegalArgumentException("Operação desconhecida: " + operation);
+        }
+    }
+
+    // O que a aba "Árvore" faz ao avaliar: monta o JTree e expande as linhas visíveis.
+    // Os componentes nunca são exibidos, então dispensam a thread de eventos.
+    private static int showTree(Fixture f) {
+        JTree tree = new JTree(new DefaultTreeModel(f.parser.getExecutionTree()));
+        JScrollPane scroll = new JScrollPane(tree);
+        scroll.setSize(800, 600);
+        scroll.doLayout();
+        scroll.getViewport().doLayout();
+        new LazyTreeExpander(tree, scroll.getViewport()).expandVisibleRows();
+        if (tree.getRowCount() < 2) throw new IllegalStateException("Árvore não expandida");
+        return tree.getRowCount();
+    }
+
+    private void checkTreeRows(String key, Fixture[] fixtures) {
+        int[] rows = new int[fixtures.length];
+        for (int s = 0; s < fixtures.length; s++) rows[s] = showTree(fixtures[s]);
+        System.out.printf("%-28s linhas expandidas: %s%n", key, Arrays.toString(rows));
+        if (rows[rows.length - 1] > MAX_ROWS_RATIO * rows[0]) {
+            failures.add(String.format("%s: %d linhas expandidas no maior tamanho, %d no menor",
+                    key, rows[rows.length - 1], rows[0]));
+        }
+    }
+
+    // Repete até somar um tempo mínimo e fica com a melhor rodada de algumas.
+    private static Measurement measure(String operation, Fixture f) {
+        run(operation, f);
+        com.sun.management.ThreadMXBean threads = allocationBean();
+        long thread = Thread.currentThread().getId();
+
+        double bestNanos = Double.MAX_VALUE;
+        double bestBytes = Double.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long before = threads == null ? 0 : threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            int count = 0;
+            long elapsed;
+            do {
+                run(operation, f);
+                count++;
+                elapsed = System.nanoTime() - start;
+            } while (elapsed < MIN_SAMPLE_NANOS);
+            long after = threads == null ? 0 : threads.getThreadAllocatedBytes(thread);
+
+            bestNanos = Math.min(bestNanos, (double) elapsed / count);
+            bestBytes = Math.min(bestBytes, (double) (after - before) / count);
+        }
+        return new Measurement(bestNanos, bestBytes);
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return (com.sun.management.ThreadMXBean) bean;
+        }
+        return null;
+    }
+
+    private boolean timeRejected(String key, Measurement[] series) {
+        if (growthExponent(nanos(series)) > MAX_TIME_EXPONENT) return true;
+        int last = SIZES.length - 1;
+        String stored = baseline.getProperty(key + ".nanosPerUnit");
+        return stored != null && series[last].nanos / SIZES[last] > Double.parseDouble(stored) * TIME_TOLERANCE;
+    }
+
+    private void checkGrowth(String key, Measurement[] series, boolean timed) {
+        int last = SIZES.length - 1;
+        double timeExponent = growthExponent(nanos(series));
+        double memoryExponent = growthExponent(bytes(series));
+        System.out.printf("%-28s crescimento: tempo n^%.2f%s, memória n^%.2f%n",
+                key, timeExponent, timed ? "" : " (não verificado)", memoryExponent);
+
+        if (timed && timeExponent > MAX_TIME_EXPONENT) {
+            failures.add(String.format("%s: tempo cresce como n^%.2f", key, timeExponent));
+        }
+        if (memoryExponent > MAX_MEMORY_EXPONENT) {
+            failures.add(String.format("%s: memória cresce como n^%.2f", key, memoryExponent));
+        }
+
+        int n = SIZES[last];
+        if (timed) measured.setProperty(key + ".nanosPerUnit", String.format(Locale.ROOT, "%.3f", series[last].nanos / n));
+        measured.setProperty(key + ".bytesPerUnit", String.format(Locale.ROOT, "%.3f", series[last].bytes / n));
+    }
+
+    private static double[] nanos(Measurement[] series) {
+        double[] values = new double[series.length];
+        for (int s = 0; s < series.length; s++) values[s] = series[s].nanos;
+        return values;
+    }
+
+    private static double[] bytes(Measurement[] series) {
+        double[] values = new double[series.length];
+        for (int s = 0; s < series.length; s++) values[s] = series[s].bytes;
+        return values;
+    }
+
+    // Expoente k em custo ~ n^k: inclinação por mínimos quadrados em escala log-log
+    private static double growthExponent(double[] values) {
+        int first = FIT_FROM;
+        int count = SIZES.length - first;
+        double sumX = 0, sumY = 0, sumXY = 0, sumXX = 0;
+        for (int s = first; s < SIZES.length; s++) {
+            if (values[s] <= 0) return 0;
+            double x = Math.log(SIZES[s]);
+            double y = Math.log(values[s]);
+            sumX += x;
+            sumY += y;
+            sumXY += x * y;
+            sumXX += x * x;
+        }
+        return (count * sumXY - sumX * sumY) / (count * sumXX - sumX * sumX);
+    }
+
+    private void loadBaseline(String path) {
+        try (Reader in = new FileReader(path)) {
+            baseline.load(in);
+        } catch (IOException e) {
+            System.out.println("Sem linha de base em " + path + "; apenas o crescimento será verificado.");
+        }
+    }
+
+    private void checkBaseline() {
+        for (String key : new TreeSet<>(baseline.stringPropertyNames())) {
+            if (measured.getProperty(key) == null) {
+                failures.add(key + ": sem medição nesta execução");
+            }
+        }
+        for (String key : measured.stringPropertyNames()) {
+            String stored = baseline.getProperty(key);
+            if (stored == null) continue;
+            double limit = Double.parseDouble(stored) * (key.endsWith(".nanosPerUnit") ? TIME_TOLERANCE : MEMORY_TOLERANCE);
+            double value = Double.parseDouble(measured.getProperty(key));
+            if (value > limit) {
+                failures.add(String.format("%s: %.3f acima do limite %.3f", key, value, limit));
+            }
+        }
+    }
+
+    private void saveBaseline(String path) throws IOException {
+        try (Writer out = new FileWriter(path)) {
+            measured.store(out, "Linha de base de ScalabilityStressSuite (maior tamanho, por unidade)");
+        }
+    }
+}